@@ -136,16 +136,8 @@ public class AddBuyerForm extends JFrame {
         }
         
         // Save to database
-        try (Connection conn = Database.getConnection()) {
-            String sql = "INSERT INTO buyers (name, email, phone, address) VALUES (?, ?, ?, ?)";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, name);
-            ps.setString(2, email);
-            ps.setString(3, phone);
-            ps.setString(4, address);
-            
-            int result = ps.executeUpdate();
-            if (result > 0) {
+        try {
+            if (Storage.get().putBuyer(new Buyer(name, email, phone, address)) > 0) {
                 JOptionPane.showMessageDialog(this, "Buyer added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 clearForm();
             } else {
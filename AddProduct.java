@@ -2,6 +2,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AddProductForm extends JFrame {
     private JTextField nameField;
@@ -12,6 +14,7 @@ public class AddProductForm extends JFrame {
     private JButton saveButton;
     private JButton clearButton;
     private JButton cancelButton;
+    private List<String> knownCategories = new ArrayList<>();
     
     public AddProductForm() {
         setTitle("Add New Product");
@@ -40,10 +43,23 @@ public class AddProductForm extends JFrame {
         
         // Set tooltips
         nameField.setToolTipText("Enter product name");
-        categoryField.setToolTipText("Enter product category");
+        categoryField.setToolTipText("Enter product category (existing categories are suggested as you type)");
         priceField.setToolTipText("Enter product price (e.g., 29.99)");
         quantityField.setToolTipText("Enter quantity in stock");
         descriptionArea.setToolTipText("Enter product description");
+        
+        loadCategories();
+    }
+    
+    private void loadCategories() {
+        knownCategories = new ArrayList<>();
+        try {
+            for (Category category : Storage.get().listCategories()) {
+                knownCategories.add(category.getName());
+            }
+        } catch (SQLException ex) {
+            System.err.println("Error loading categories: " + ex.getMessage());
+        }
     }
     
     private void setupLayout() {
@@ -96,6 +112,14 @@ public class AddProductForm extends JFrame {
         clearButton.addActionListener(e -> clearForm());
         cancelButton.addActionListener(e -> dispose());
         
+        // Complete the category from the dictionary as the user types
+        categoryField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyReleased(KeyEvent e) {
+                autocompleteCategory(e);
+            }
+        });
+        
         // Add Enter key listener to save button
         getRootPane().setDefaultButton(saveButton);
     }
@@ -150,18 +174,10 @@ public class AddProductForm extends JFrame {
         }
         
         // Save to database
-        try (Connection conn = Database.getConnection()) {
-            String sql = "INSERT INTO products (name, category, price, quantity, description) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, name);
-            ps.setString(2, category);
-            ps.setDouble(3, price);
-            ps.setInt(4, quantity);
-            ps.setString(5, description);
-            
-            int result = ps.executeUpdate();
-            if (result > 0) {
+        try {
+            if (Storage.get().putProduct(new Product(name, category, price, quantity, description)) > 0) {
                 JOptionPane.showMessageDialog(this, "Product added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                loadCategories(); // Pick up a newly added category
                 clearForm();
             } else {
                 JOptionPane.showMessageDialog(this, "Failed to add product!", "Error", JOptionPane.ERROR_MESSAGE);
@@ -172,6 +188,26 @@ public class AddProductForm extends JFrame {
         }
     }
     
+    private void autocompleteCategory(KeyEvent e) {
+        // Only complete after a printable character typed at the end of the text
+        char c = e.getKeyChar();
+        String typed = categoryField.getText();
+        if (c == KeyEvent.CHAR_UNDEFINED || Character.isISOControl(c) 
+                || typed.isEmpty() || categoryField.getCaretPosition() != typed.length()) {
+            return;
+        }
+        
+        String prefix = typed.toLowerCase();
+        for (String name : knownCategories) {
+            if (name.length() > typed.length() && name.toLowerCase().startsWith(prefix)) {
+                // Keep what was typed and select the suggested rest so the next keystroke replaces it
+                categoryField.setText(typed + name.substring(typed.length()));
+                categoryField.select(typed.length(), name.length());
+                return;
+            }
+        }
+    }
+    
     private void clearForm() {
         nameField.setText("");
         categoryField.setText("");
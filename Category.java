@@ -0,0 +1,46 @@
+public class Category {
+    private int id;
+    private String name;
+
+    // Default constructor
+    public Category() {}
+
+    // Constructor with all fields
+    public Category(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    // Canonical form used for dictionary lookups: trimmed, single-spaced
+    // (case is folded by the lookup itself so the first spelling seen is kept)
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ");
+    }
+
+    // Case-folded lookup key, matching SQLite's NOCASE collation on categories.name:
+    // only ASCII A-Z are folded, so every engine treats the same names as equal
+    public static String key(String name) {
+        char[] chars = normalize(name).toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    @Override
+    public String toString() {
+        return "Category{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
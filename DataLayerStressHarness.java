@@ -0,0 +1,257 @@
+import java.io.File;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DataLayerStressHarness {
+    private static final String[] OPERATIONS = {"addProduct", "addBuyer", "search", "sale", "delete"};
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Toys", "Garden", "Kitchen"};
+
+    private final StorageEngine storage;
+    private final int clients;
+    private final int opsPerClient;
+
+    // Outcome counters shared by all clients
+    private final AtomicLong productsInserted = new AtomicLong();
+    private final AtomicLong productsDeleted = new AtomicLong();
+    private final AtomicLong buyersInserted = new AtomicLong();
+    private final AtomicLong busyErrors = new AtomicLong();
+    private final AtomicLong otherErrors = new AtomicLong();
+    private final AtomicLong salesRejected = new AtomicLong();
+    private final Set<Integer> liveProductIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger maxProductId = new AtomicInteger();
+
+    // Stock bookkeeping per product: quantity at insert and units sold since
+    private final Map<Integer, Integer> initialQuantity = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> unitsSold = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+
+    public DataLayerStressHarness(StorageEngine storage, int clients, int opsPerClient) {
+        this.storage = storage;
+        this.clients = clients;
+        this.opsPerClient = opsPerClient;
+        for (String op : OPERATIONS) {
+            latencies.put(op, Collections.synchronizedList(new ArrayList<>()));
+        }
+    }
+
+    // Run the workload and return true if every invariant holds
+    public boolean run() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        long begin;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int clientId = c;
+                executor.submit(() -> {
+                    start.await();
+                    runClient(clientId);
+                    return null;
+                });
+            }
+            begin = System.nanoTime();
+            start.countDown();
+        } // close() waits for every client to finish
+        long elapsed = System.nanoTime() - begin;
+
+        report(elapsed);
+        return checkInvariants();
+    }
+
+    private void runClient(int clientId) {
+        Random random = new Random(clientId);
+        List<Integer> ownIds = new ArrayList<>();
+
+        for (int i = 0; i < opsPerClient; i++) {
+            int roll = random.nextInt(100);
+            String op = roll < 30 ? "addProduct" : roll < 45 ? "addBuyer" : roll < 75 ? "search" : roll < 90 ? "sale" : "delete";
+            if (op.equals("delete") && ownIds.isEmpty()) {
+                continue; // Nothing to delete yet; don't record a no-op latency sample
+            }
+            long t0 = System.nanoTime();
+            try {
+                switch (op) {
+                    case "addProduct": {
+                        // Small quantities so concurrent sales regularly run into the stock guard
+                        String name = "product-" + clientId + "-" + i;
+                        int quantity = random.nextInt(20);
+                        int id = storage.putProduct(new Product(name, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                                random.nextInt(10000) / 100.0, quantity, "Stress test item " + name));
+                        if (id > 0) {
+                            initialQuantity.put(id, quantity);
+                            unitsSold.putIfAbsent(id, new AtomicInteger());
+                            maxProductId.accumulateAndGet(id, Math::max);
+                            productsInserted.incrementAndGet();
+                            liveProductIds.add(id);
+                            ownIds.add(id);
+                        }
+                        break;
+                    }
+                    case "addBuyer":
+                        if (storage.putBuyer(new Buyer("buyer-" + clientId + "-" + i, "buyer" + clientId + "." + i + "@example.com",
+                                "555-" + i, clientId + " Stress Street")) > 0) {
+                            buyersInserted.incrementAndGet();
+                        }
+                        break;
+                    case "search":
+                        storage.scanProducts(CATEGORIES[random.nextInt(CATEGORIES.length)].toLowerCase());
+                        break;
+                    case "sale": {
+                        // Any client's product, so sales of the same row contend with each other
+                        int id = 1 + random.nextInt(Math.max(maxProductId.get(), 1));
+                        int amount = 1 + random.nextInt(3);
+                        if (storage.sellProduct(id, amount)) {
+                            // The insert may not have recorded its bookkeeping yet
+                            unitsSold.computeIfAbsent(id, k -> new AtomicInteger()).addAndGet(amount);
+                        } else {
+                            salesRejected.incrementAndGet();
+                        }
+                        break;
+                    }
+                    default: {
+                        int id = ownIds.remove(random.nextInt(ownIds.size()));
+                        if (storage.deleteProduct(id)) {
+                            productsDeleted.incrementAndGet();
+                            liveProductIds.remove(id);
+                        }
+                        break;
+                    }
+                }
+                latencies.get(op).add(System.nanoTime() - t0);
+            } catch (SQLException e) {
+                if (isBusy(e)) {
+                    busyErrors.incrementAndGet();
+                } else {
+                    otherErrors.incrementAndGet();
+                    System.err.println("Client " + clientId + " " + op + " failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean isBusy(SQLException e) {
+        // SQLITE_BUSY = 5, SQLITE_LOCKED = 6
+        String message = String.valueOf(e.getMessage());
+        return e.getErrorCode() == 5 || e.getErrorCode() == 6
+                || message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED");
+    }
+
+    private boolean checkInvariants() throws SQLException {
+        boolean ok = true;
+        List<Product> products = storage.scanProducts("");
+        long buyers = storage.scanBuyers("").size();
+        long negative = products.stream().filter(p -> p.getQuantity() < 0).count();
+
+        long expectedProducts = productsInserted.get() - productsDeleted.get();
+        ok &= check("product count", products.size() == expectedProducts, products.size() + " rows, expected " + expectedProducts);
+        ok &= check("buyer count", buyers == buyersInserted.get(), buyers + " rows, expected " + buyersInserted.get());
+        ok &= check("no negative quantities", negative == 0, negative + " rows below zero");
+
+        // Every successful sale must be reflected exactly once in the stored quantity
+        long mismatched = products.stream()
+                .filter(p -> initialQuantity.containsKey(p.getId()))
+                .filter(p -> p.getQuantity() != initialQuantity.get(p.getId()) - unitsSold.get(p.getId()).get())
+                .count();
+        ok &= check("stock matches sales", mismatched == 0, mismatched + " products off");
+
+        // Every acknowledged insert that was not deleted must still be readable
+        Set<Integer> lost = new HashSet<>(liveProductIds);
+        for (Product product : products) {
+            lost.remove(product.getId());
+        }
+        ok &= check("no lost inserts", lost.isEmpty(), lost.size() + " missing");
+
+        // Without this, a run where every write fails would match its own zero counts and pass
+        ok &= check("no unexpected errors", otherErrors.get() == 0, otherErrors.get() + " non-BUSY errors");
+        return ok;
+    }
+
+    private static boolean check(String name, boolean passed, String detail) {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + " (" + detail + ")");
+        return passed;
+    }
+
+    private void report(long elapsedNanos) {
+        long completed = 0;
+        System.out.printf("%-12s %8s %10s %10s %10s %10s%n", "operation", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String op : OPERATIONS) {
+            List<Long> samples = new ArrayList<>(latencies.get(op));
+            Collections.sort(samples);
+            completed += samples.size();
+            System.out.printf("%-12s %8d %10.2f %10.2f %10.2f %10.2f%n", op, samples.size(),
+                    percentile(samples, 50), percentile(samples, 95), percentile(samples, 99), percentile(samples, 100));
+        }
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("%d clients, %d ops in %.2f s (%.0f ops/s)%n", clients, completed, seconds, completed / seconds);
+        System.out.println("Sales rejected by the stock guard or missing product: " + salesRejected.get());
+        System.out.println("BUSY/locked errors: " + busyErrors.get() + ", other errors: " + otherErrors.get());
+    }
+
+    private static double percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Usage: DataLayerStressHarness [clients] [opsPerClient] [file|memory|engine|engine-log]
+        // Requires JDK 21 or later to compile and run: clients are virtual threads and the executor
+        // is closed by try-with-resources. sqlite-jdbc (and its slf4j-api dependency) must be on the classpath.
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int opsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        String mode = args.length > 2 ? args[2] : "file";
+
+        // Point the selected engine at a throwaway store
+        Connection anchor = null;
+        File tempFile = null;
+        StorageEngine storage;
+        switch (mode) {
+            case "memory": {
+                // SQLite in shared-cache memory mode
+                String url = "jdbc:sqlite:file:stress?mode=memory&cache=shared";
+                System.setProperty("inventory.db.url", url);
+                anchor = DriverManager.getConnection(url); // Keeps the shared in-memory database alive
+                storage = new SqliteStorageEngine();
+                break;
+            }
+            case "engine":
+                storage = new InMemoryStorageEngine();
+                break;
+            case "engine-log":
+                tempFile = File.createTempFile("inventory-stress", ".log");
+                tempFile.delete();
+                storage = new InMemoryStorageEngine(tempFile);
+                break;
+            default:
+                tempFile = File.createTempFile("inventory-stress", ".db");
+                System.setProperty("inventory.db.url", "jdbc:sqlite:" + tempFile.getPath());
+                storage = new SqliteStorageEngine();
+                break;
+        }
+        Storage.set(storage);
+        System.out.println("Storage: " + mode + " (" + storage.getClass().getSimpleName() + ")");
+
+        boolean ok;
+        try {
+            if (storage instanceof SqliteStorageEngine) {
+                Database.testConnection();
+            }
+            ok = new DataLayerStressHarness(storage, clients, opsPerClient).run();
+        } finally {
+            storage.close();
+            if (anchor != null) {
+                anchor.close();
+            }
+            if (tempFile != null) {
+                for (String suffix : new String[] {"", "-wal", "-shm"}) {
+                    new File(tempFile.getPath() + suffix).delete();
+                }
+            }
+        }
+        System.exit(ok ? 0 : 1);
+    }
+}
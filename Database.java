@@ -1,18 +1,30 @@
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Database {
-    private static final String DB_URL = "jdbc:sqlite:inventory.db";
+    // Override with -Dinventory.db.url=... (e.g. a temporary or in-memory database)
+    private static final String DB_URL = System.getProperty("inventory.db.url", "jdbc:sqlite:inventory.db");
     
     // Initialize database and create tables
     static {
         try (Connection conn = DriverManager.getConnection(DB_URL)) {
             Statement stmt = conn.createStatement();
             
+            // WAL lets snapshot readers (see DatabaseBackup) run alongside writers
+            stmt.execute("PRAGMA journal_mode=WAL");
+            
+            // Create category dictionary; NOCASE makes lookups ignore case
+            stmt.execute("CREATE TABLE IF NOT EXISTS categories (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "name TEXT NOT NULL UNIQUE COLLATE NOCASE)");
+            
             // Create products table
             stmt.execute("CREATE TABLE IF NOT EXISTS products (" +
                     "id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     "name TEXT NOT NULL," +
                     "category TEXT," +
+                    "category_id INTEGER REFERENCES categories(id)," +
                     "price REAL," +
                     "quantity INTEGER," +
                     "description TEXT)");
@@ -24,6 +36,8 @@ public class Database {
                     "email TEXT," +
                     "phone TEXT," +
                     "address TEXT)");
+            
+            migrateCategories(conn);
                     
             System.out.println("Database initialized successfully!");
             
@@ -33,6 +47,55 @@ public class Database {
         }
     }
     
+    // Link products created before the category dictionary existed to dictionary entries
+    private static void migrateCategories(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement();
+        
+        boolean hasCategoryId = false;
+        ResultSet columns = stmt.executeQuery("PRAGMA table_info(products)");
+        while (columns.next()) {
+            hasCategoryId |= columns.getString("name").equals("category_id");
+        }
+        if (!hasCategoryId) {
+            stmt.execute("ALTER TABLE products ADD COLUMN category_id INTEGER REFERENCES categories(id)");
+        }
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_products_category_id ON products(category_id)");
+        
+        // Read the unlinked rows first; SQLite does not like updating a table mid-scan
+        List<Integer> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        ResultSet rs = stmt.executeQuery("SELECT id, category FROM products WHERE category_id IS NULL ORDER BY id");
+        while (rs.next()) {
+            if (!Category.normalize(rs.getString("category")).isEmpty()) {
+                ids.add(rs.getInt("id"));
+                names.add(rs.getString("category"));
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        // Same normalization and lookup as new products; the first spelling seen becomes the canonical one
+        conn.setAutoCommit(false);
+        try {
+            PreparedStatement update = conn.prepareStatement("UPDATE products SET category = ?, category_id = ? WHERE id = ?");
+            for (int i = 0; i < ids.size(); i++) {
+                Category category = SqliteStorageEngine.internCategory(conn, names.get(i));
+                update.setString(1, category.getName());
+                update.setInt(2, category.getId());
+                update.setInt(3, ids.get(i));
+                update.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        System.out.println("Linked " + ids.size() + " products to the category dictionary");
+    }
+    
     // Get database connection
     public static Connection getConnection() throws SQLException {
         return DriverManager.getConnection(DB_URL);
@@ -0,0 +1,204 @@
+import java.io.*;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+public class DatabaseBackup {
+    private static final File SNAPSHOT_DIR = new File("backups");
+    private static final String SNAPSHOT_PREFIX = "inventory-";
+    private static final String SNAPSHOT_SUFFIX = ".db.gz";
+    private static final int RETENTION = 5;            // Number of snapshots kept on disk
+    private static final int CHUNK_SIZE = 64 * 1024;   // Bytes copied per step
+    private static final int PAGES_PER_STEP = 64;      // Database pages copied per backup step
+    private static final int BUSY_RETRY_PAUSE_MS = 5;  // Wait before retrying a step that found the database locked
+    private static final int BUSY_RETRIES = 100;       // Times a locked step is retried before giving up
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // Single background worker so snapshots never run on the UI thread or overlap
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "db-backup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Take a compressed snapshot of the live database in the background
+    public static Future<File> createSnapshotAsync() {
+        return worker.submit(DatabaseBackup::createSnapshot);
+    }
+
+    // Take a compressed snapshot of the live database on the calling thread
+    public static File createSnapshot() throws SQLException, IOException {
+        ensureSnapshotDir();
+
+        String stamp = LocalDateTime.now().format(STAMP);
+        File raw = new File(SNAPSHOT_DIR, SNAPSHOT_PREFIX + stamp + ".db.tmp");
+        File snapshot = new File(SNAPSHOT_DIR, SNAPSHOT_PREFIX + stamp + SNAPSHOT_SUFFIX);
+        // Compressed under a temporary name so a failed or interrupted run never looks like a snapshot
+        File partial = new File(SNAPSHOT_DIR, snapshot.getName() + ".tmp");
+
+        try {
+            // Online backup: the source is only locked while each small step runs
+            long start = System.nanoTime();
+            try (Connection conn = Database.getConnection()) {
+                DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.backup("main", raw.getPath(), pageProgress("Copying"),
+                                   BUSY_RETRY_PAUSE_MS, BUSY_RETRIES, PAGES_PER_STEP);
+                if (rc != 0) {
+                    throw new SQLException("Backup failed with SQLite error code " + rc, null, rc);
+                }
+            }
+            report("Snapshot copied", raw.length(), System.nanoTime() - start);
+
+            // Compress in small chunks so progress can be reported along the way
+            start = System.nanoTime();
+            try (InputStream in = new BufferedInputStream(new FileInputStream(raw));
+                 OutputStream out = new GZIPOutputStream(new FileOutputStream(partial), CHUNK_SIZE)) {
+                copy(in, out, raw.length(), "Compressing", start);
+            }
+            if (!partial.renameTo(snapshot)) {
+                throw new IOException("Cannot rename " + partial + " to " + snapshot);
+            }
+            report("Snapshot compressed to " + snapshot.getName() + " (" + snapshot.length() + " bytes)",
+                   raw.length(), System.nanoTime() - start);
+        } finally {
+            raw.delete();
+            partial.delete();
+        }
+
+        rotate();
+        return snapshot;
+    }
+
+    // Replace the live database with the contents of a snapshot, returning the recovery time in ms
+    public static long restoreSnapshot(File snapshot) throws SQLException, IOException {
+        if (!snapshot.isFile()) {
+            throw new FileNotFoundException("Snapshot not found: " + snapshot);
+        }
+
+        ensureSnapshotDir();
+        long start = System.nanoTime();
+        File raw = new File(SNAPSHOT_DIR, snapshot.getName() + ".restore.tmp");
+        long restoredBytes;
+        try {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(snapshot), CHUNK_SIZE);
+                 OutputStream out = new BufferedOutputStream(new FileOutputStream(raw))) {
+                copy(in, out, -1, "Decompressing", start);
+            }
+            restoredBytes = raw.length();
+
+            // Copy the snapshot into the live database in small steps, same as the backup
+            try (Connection conn = Database.getConnection()) {
+                DB db = conn.unwrap(SQLiteConnection.class).getDatabase();
+                int rc = db.restore("main", raw.getPath(), pageProgress("Restoring"),
+                                    BUSY_RETRY_PAUSE_MS, BUSY_RETRIES, PAGES_PER_STEP);
+                if (rc != 0) {
+                    throw new SQLException("Restore failed with SQLite error code " + rc, null, rc);
+                }
+            }
+        } finally {
+            // The snapshot keeps the live database's WAL mode, so opening it leaves side files too
+            raw.delete();
+            new File(raw.getPath() + "-wal").delete();
+            new File(raw.getPath() + "-shm").delete();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        report("Restored " + snapshot.getName(), restoredBytes, elapsed);
+        System.out.println("Recovery time: " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
+    // Restore in the background
+    public static Future<Long> restoreSnapshotAsync(File snapshot) {
+        return worker.submit(() -> restoreSnapshot(snapshot));
+    }
+
+    // List available snapshots, newest first
+    public static List<File> listSnapshots() {
+        File[] files = SNAPSHOT_DIR.listFiles((dir, name) ->
+                name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        // Timestamped names sort chronologically
+        List<File> snapshots = new ArrayList<>(Arrays.asList(files));
+        snapshots.sort(Comparator.comparing(File::getName).reversed());
+        return snapshots;
+    }
+
+    private static void ensureSnapshotDir() throws IOException {
+        if (!SNAPSHOT_DIR.exists() && !SNAPSHOT_DIR.mkdirs()) {
+            throw new IOException("Cannot create backup directory: " + SNAPSHOT_DIR);
+        }
+    }
+
+    // Delete the oldest snapshots beyond the retention limit
+    private static void rotate() {
+        List<File> snapshots = listSnapshots();
+        for (int i = RETENTION; i < snapshots.size(); i++) {
+            File old = snapshots.get(i);
+            if (old.delete()) {
+                System.out.println("Removed old snapshot " + old.getName());
+            }
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out, long total, String label, long start) throws IOException {
+        byte[] buffer = new byte[CHUNK_SIZE];
+        long copied = 0;
+        int lastPercent = -1;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+            copied += n;
+            if (total > 0) {
+                int percent = (int) (copied * 100 / total);
+                if (percent / 10 != lastPercent / 10) {
+                    lastPercent = percent;
+                    System.out.printf("%s: %d%% (%.1f MB/s)%n", label, percent, throughput(copied, System.nanoTime() - start));
+                }
+            }
+        }
+    }
+
+    // Report page-copy progress every 10%
+    private static DB.ProgressObserver pageProgress(String label) {
+        int[] lastPercent = {-1};
+        return (remaining, pageCount) -> {
+            if (pageCount <= 0) {
+                return;
+            }
+            int copied = pageCount - remaining;
+            int percent = (int) (copied * 100L / pageCount);
+            if (percent / 10 != lastPercent[0] / 10) {
+                lastPercent[0] = percent;
+                System.out.printf("%s: %d%% of %d pages%n", label, percent, pageCount);
+            }
+        };
+    }
+
+    private static void report(String message, long bytes, long nanos) {
+        System.out.printf("%s in %d ms (%.1f MB/s)%n", message, TimeUnit.NANOSECONDS.toMillis(nanos), throughput(bytes, nanos));
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        return nanos <= 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Usage: DatabaseBackup [restore <snapshot-file>]
+        if (args.length == 2 && args[0].equals("restore")) {
+            restoreSnapshot(new File(args[1]));
+        } else {
+            File snapshot = createSnapshotAsync().get();
+            System.out.println("Snapshot written to " + snapshot.getPath());
+        }
+    }
+}
@@ -3,6 +3,13 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class DeleteProductForm extends JFrame {
     private JTable productTable;
@@ -10,6 +17,20 @@ public class DeleteProductForm extends JFrame {
     private JButton refreshButton;
     private JButton closeButton;
     private JTextField searchField;
+    private JComboBox<FacetOption> categoryFilter;
+    private JComboBox<FacetOption> stockFilter;
+    private JComboBox<FacetOption> priceFilter;
+    
+    // All products in name order, with bitmap indexes over their row positions for the facet filters.
+    // Deleted products keep their row so the other positions stay valid; they are only dropped from the index.
+    private List<Product> products = new ArrayList<>();
+    private FacetIndex facetIndex = new FacetIndex();
+    private Map<Integer, String> categoryNames = new HashMap<>();
+    
+    // Rows matching the last search text, kept while only the facet selections change
+    private String lastSearchText = "";
+    private CompressedBitmap lastSearchHits;
+    private boolean updatingFacets; // Suppresses filter events while the facet counts are rebuilt
     
     public DeleteProductForm() {
         setTitle("Delete Products");
@@ -25,15 +46,29 @@ public class DeleteProductForm extends JFrame {
     
     private void initComponents() {
         // Create table model with columns
-        String[] columns = {"ID", "Name", "Category", "Price", "Quantity", "Description", "Delete"};
+        // Description is left out of the list and loaded on hover or double-click
+        String[] columns = {"ID", "Name", "Category", "Price", "Quantity", "Delete"};
         tableModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
-                return column == 6; // Only delete button is editable
+                return column == 5; // Only delete button is editable
             }
         };
         
-        productTable = new JTable(tableModel);
+        productTable = new JTable(tableModel) {
+            @Override
+            public String getToolTipText(MouseEvent e) {
+                int row = rowAtPoint(e.getPoint());
+                if (row < 0) {
+                    return null;
+                }
+                String description = ProductDescriptionCache.get((int) getValueAt(row, 0));
+                if (description == null || description.isEmpty()) {
+                    return null;
+                }
+                return "<html><p width=\"300\">" + escapeHtml(description) + "</p></html>";
+            }
+        };
         productTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         productTable.getTableHeader().setReorderingAllowed(false);
         
@@ -43,8 +78,7 @@ public class DeleteProductForm extends JFrame {
         productTable.getColumnModel().getColumn(2).setPreferredWidth(100); // Category
         productTable.getColumnModel().getColumn(3).setPreferredWidth(80);  // Price
         productTable.getColumnModel().getColumn(4).setPreferredWidth(80);  // Quantity
-        productTable.getColumnModel().getColumn(5).setPreferredWidth(200); // Description
-        productTable.getColumnModel().getColumn(6).setPreferredWidth(80);  // Delete
+        productTable.getColumnModel().getColumn(5).setPreferredWidth(80);  // Delete
         
         // Set up delete button renderer and editor
         productTable.getColumn("Delete").setCellRenderer(new ButtonRenderer());
@@ -53,6 +87,13 @@ public class DeleteProductForm extends JFrame {
         searchField = new JTextField(20);
         searchField.setToolTipText("Search products by name or category");
         
+        categoryFilter = new JComboBox<>();
+        stockFilter = new JComboBox<>();
+        priceFilter = new JComboBox<>();
+        categoryFilter.setToolTipText("Filter by category");
+        stockFilter.setToolTipText("Filter by stock status");
+        priceFilter.setToolTipText("Filter by price band");
+        
         refreshButton = new JButton("Refresh");
         closeButton = new JButton("Close");
     }
@@ -66,11 +107,24 @@ public class DeleteProductForm extends JFrame {
         searchPanel.add(searchField);
         searchPanel.add(refreshButton);
         
+        // Facet panel
+        JPanel facetPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        facetPanel.add(new JLabel("Category:"));
+        facetPanel.add(categoryFilter);
+        facetPanel.add(new JLabel("Stock:"));
+        facetPanel.add(stockFilter);
+        facetPanel.add(new JLabel("Price:"));
+        facetPanel.add(priceFilter);
+        
+        JPanel northPanel = new JPanel(new GridLayout(2, 1));
+        northPanel.add(searchPanel);
+        northPanel.add(facetPanel);
+        
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.add(closeButton);
         
-        add(searchPanel, BorderLayout.NORTH);
+        add(northPanel, BorderLayout.NORTH);
         add(new JScrollPane(productTable), BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -79,6 +133,27 @@ public class DeleteProductForm extends JFrame {
         refreshButton.addActionListener(e -> loadProducts());
         closeButton.addActionListener(e -> dispose());
         
+        // Facet filters
+        ActionListener facetListener = e -> {
+            if (!updatingFacets) {
+                filterProducts();
+            }
+        };
+        categoryFilter.addActionListener(facetListener);
+        stockFilter.addActionListener(facetListener);
+        priceFilter.addActionListener(facetListener);
+        
+        // Show the full description on double-click
+        productTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = productTable.rowAtPoint(e.getPoint());
+                if (e.getClickCount() == 2 && row >= 0 && productTable.columnAtPoint(e.getPoint()) != 5) {
+                    showDescription(row);
+                }
+            }
+        });
+        
         // Add search functionality
         searchField.addKeyListener(new KeyAdapter() {
             @Override
@@ -89,67 +164,168 @@ public class DeleteProductForm extends JFrame {
     }
     
     private void loadProducts() {
-        tableModel.setRowCount(0); // Clear table
-        
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM products ORDER BY name")) {
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("category"),
-                    String.format("$%.2f", rs.getDouble("price")),
-                    rs.getInt("quantity"),
-                    rs.getString("description"),
-                    "Delete"
-                };
-                tableModel.addRow(row);
+        try {
+            products = Storage.get().scanProducts("");
+            facetIndex = FacetIndex.of(products);
+            lastSearchText = "";
+            lastSearchHits = null;
+            categoryNames = new HashMap<>();
+            for (Category category : Storage.get().listCategories()) {
+                categoryNames.put(category.getId(), category.getName());
             }
-            
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error loading products: " + ex.getMessage(), 
                                         "Database Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
         }
+        filterProducts();
     }
     
     private void filterProducts() {
         String searchText = searchField.getText().toLowerCase().trim();
+        CompressedBitmap searchHits = searchRows(searchText);
         
-        if (searchText.isEmpty()) {
-            loadProducts();
-            return;
+        Integer categoryId = (Integer) selectedValue(categoryFilter);
+        FacetIndex.StockStatus stock = (FacetIndex.StockStatus) selectedValue(stockFilter);
+        FacetIndex.PriceBand price = (FacetIndex.PriceBand) selectedValue(priceFilter);
+        
+        CompressedBitmap matches = facetIndex.select(categoryId, stock, price);
+        if (searchHits != null) {
+            matches = matches.and(searchHits);
         }
         
+        // Bits are row positions, so this is exactly the rows to show, already in name order
         tableModel.setRowCount(0); // Clear table
+        for (int row : matches.toArray()) {
+            addRow(products.get(row));
+        }
+        
+        updateFacetCounts(categoryId, stock, price, searchHits);
+    }
+    
+    // Rows whose name or category contains the search text, or null for no search.
+    // Matches the loaded rows rather than querying storage; typing more characters only
+    // rechecks the previous hits, and changing a facet reuses them as they are.
+    private CompressedBitmap searchRows(String searchText) {
+        if (searchText.isEmpty()) {
+            lastSearchText = "";
+            lastSearchHits = null;
+            return null;
+        }
+        if (lastSearchHits != null && searchText.equals(lastSearchText)) {
+            return lastSearchHits;
+        }
         
-        try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT * FROM products WHERE LOWER(name) LIKE ? OR LOWER(category) LIKE ? ORDER BY name";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, "%" + searchText + "%");
-            ps.setString(2, "%" + searchText + "%");
-            
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("category"),
-                    String.format("$%.2f", rs.getDouble("price")),
-                    rs.getInt("quantity"),
-                    rs.getString("description"),
-                    "Delete"
-                };
-                tableModel.addRow(row);
+        CompressedBitmap hits = new CompressedBitmap();
+        if (lastSearchHits != null && searchText.contains(lastSearchText)) {
+            for (int row : lastSearchHits.toArray()) {
+                if (matchesSearch(products.get(row), searchText)) {
+                    hits.add(row);
+                }
+            }
+        } else {
+            for (int row = 0; row < products.size(); row++) {
+                if (matchesSearch(products.get(row), searchText)) {
+                    hits.add(row);
+                }
             }
-            
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error filtering products: " + ex.getMessage(), 
-                                        "Database Error", JOptionPane.ERROR_MESSAGE);
-            ex.printStackTrace();
         }
+        lastSearchText = searchText;
+        lastSearchHits = hits;
+        return hits;
+    }
+    
+    private static boolean matchesSearch(Product product, String searchText) {
+        return (product.getName() != null && product.getName().toLowerCase().contains(searchText))
+            || (product.getCategory() != null && product.getCategory().toLowerCase().contains(searchText));
+    }
+    
+    private void updateFacetCounts(Integer categoryId, FacetIndex.StockStatus stock, 
+                                   FacetIndex.PriceBand price, CompressedBitmap searchHits) {
+        updatingFacets = true;
+        try {
+            List<FacetOption> categoryOptions = new ArrayList<>();
+            Map<Integer, Integer> categoryCounts = facetIndex.countByCategory(stock, price, searchHits);
+            categoryOptions.add(new FacetOption(null, "All categories", sum(categoryCounts.values())));
+            for (Map.Entry<Integer, String> entry : categoryNames.entrySet()) {
+                int count = categoryCounts.getOrDefault(entry.getKey(), 0);
+                if (count > 0 || entry.getKey().equals(categoryId)) {
+                    categoryOptions.add(new FacetOption(entry.getKey(), entry.getValue(), count));
+                }
+            }
+            categoryOptions.subList(1, categoryOptions.size()).sort(
+                    Comparator.comparing(option -> option.label, String.CASE_INSENSITIVE_ORDER));
+            setOptions(categoryFilter, categoryOptions, categoryId);
+        
+            List<FacetOption> stockOptions = new ArrayList<>();
+            Map<FacetIndex.StockStatus, Integer> stockCounts = facetIndex.countByStock(categoryId, price, searchHits);
+            stockOptions.add(new FacetOption(null, "Any stock", sum(stockCounts.values())));
+            for (Map.Entry<FacetIndex.StockStatus, Integer> entry : stockCounts.entrySet()) {
+                stockOptions.add(new FacetOption(entry.getKey(), entry.getKey().toString(), entry.getValue()));
+            }
+            setOptions(stockFilter, stockOptions, stock);
+        
+            List<FacetOption> priceOptions = new ArrayList<>();
+            Map<FacetIndex.PriceBand, Integer> priceCounts = facetIndex.countByPriceBand(categoryId, stock, searchHits);
+            priceOptions.add(new FacetOption(null, "Any price", sum(priceCounts.values())));
+            for (Map.Entry<FacetIndex.PriceBand, Integer> entry : priceCounts.entrySet()) {
+                priceOptions.add(new FacetOption(entry.getKey(), entry.getKey().toString(), entry.getValue()));
+            }
+            setOptions(priceFilter, priceOptions, price);
+        } finally {
+            updatingFacets = false;
+        }
+    }
+    
+    private static void setOptions(JComboBox<FacetOption> comboBox, List<FacetOption> options, Object selected) {
+        DefaultComboBoxModel<FacetOption> model = new DefaultComboBoxModel<>();
+        for (FacetOption option : options) {
+            model.addElement(option);
+            if (Objects.equals(option.value, selected)) {
+                model.setSelectedItem(option);
+            }
+        }
+        comboBox.setModel(model);
+    }
+    
+    private static Object selectedValue(JComboBox<FacetOption> comboBox) {
+        FacetOption option = (FacetOption) comboBox.getSelectedItem();
+        return option == null ? null : option.value;
+    }
+    
+    private static int sum(Collection<Integer> counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    private void addRow(Product product) {
+        Object[] row = {
+            product.getId(),
+            product.getName(),
+            product.getCategory(),
+            String.format("$%.2f", product.getPrice()),
+            product.getQuantity(),
+            "Delete"
+        };
+        tableModel.addRow(row);
+    }
+    
+    private void showDescription(int row) {
+        int productId = (int) tableModel.getValueAt(row, 0);
+        String description = ProductDescriptionCache.get(productId);
+        JTextArea area = new JTextArea(description == null || description.isEmpty() ? "(no description)" : description, 8, 40);
+        area.setLineWrap(true);
+        area.setWrapStyleWord(true);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), 
+                                    (String) tableModel.getValueAt(row, 1), JOptionPane.PLAIN_MESSAGE);
+    }
+    
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
     
     public void deleteProduct(int productId) {
@@ -158,16 +334,21 @@ public class DeleteProductForm extends JFrame {
             "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "DELETE FROM products WHERE id = ?";
-                PreparedStatement ps = conn.prepareStatement(sql);
-                ps.setInt(1, productId);
-                
-                int result = ps.executeUpdate();
-                if (result > 0) {
+            try {
+                if (Storage.get().deleteProduct(productId)) {
                     JOptionPane.showMessageDialog(this, "Product deleted successfully!", 
                                                 "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadProducts(); // Refresh the table
+                    // Drop the row from the indexes in place rather than reloading everything
+                    for (int row = 0; row < products.size(); row++) {
+                        if (products.get(row).getId() == productId) {
+                            facetIndex.remove(row);
+                            if (lastSearchHits != null) {
+                                lastSearchHits.remove(row);
+                            }
+                            break;
+                        }
+                    }
+                    filterProducts();
                 } else {
                     JOptionPane.showMessageDialog(this, "Product not found or already deleted.", 
                                                 "Error", JOptionPane.ERROR_MESSAGE);
@@ -189,6 +370,24 @@ public class DeleteProductForm extends JFrame {
     }
 }
 
+// Facet filter entry showing its live match count
+class FacetOption {
+    final Object value;   // Category id, stock status or price band; null for "any"
+    final String label;
+    final int count;
+    
+    FacetOption(Object value, String label, int count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+    
+    @Override
+    public String toString() {
+        return label + " (" + count + ")";
+    }
+}
+
 // Button renderer for the delete button
 class ButtonRenderer extends JButton implements javax.swing.table.TableCellRenderer {
     public ButtonRenderer() {
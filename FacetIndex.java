@@ -0,0 +1,154 @@
+import java.util.*;
+
+// Bitmap indexes for faceted filtering by category, stock status and price band. Bits are row
+// positions in the indexed list, so a selection read back with toArray() is already in list order.
+// A null selection in any dimension means "any".
+public class FacetIndex {
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    public enum StockStatus {
+        OUT_OF_STOCK("Out of stock"),
+        LOW_STOCK("Low stock (1-" + LOW_STOCK_THRESHOLD + ")"),
+        IN_STOCK("In stock");
+
+        private final String label;
+
+        StockStatus(String label) {
+            this.label = label;
+        }
+
+        public static StockStatus of(int quantity) {
+            if (quantity <= 0) {
+                return OUT_OF_STOCK;
+            }
+            return quantity <= LOW_STOCK_THRESHOLD ? LOW_STOCK : IN_STOCK;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum PriceBand {
+        UNDER_10("Under $10", 10),
+        FROM_10_TO_50("$10 - $50", 50),
+        FROM_50_TO_100("$50 - $100", 100),
+        FROM_100_TO_500("$100 - $500", 500),
+        OVER_500("$500 and up", Double.MAX_VALUE);
+
+        private final String label;
+        private final double upperBound;   // Exclusive
+
+        PriceBand(String label, double upperBound) {
+            this.label = label;
+            this.upperBound = upperBound;
+        }
+
+        public static PriceBand of(double price) {
+            for (PriceBand band : values()) {
+                if (price < band.upperBound) {
+                    return band;
+                }
+            }
+            return OVER_500;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<Integer, CompressedBitmap> byCategory = new HashMap<>();
+    private final Map<StockStatus, CompressedBitmap> byStock = new EnumMap<>(StockStatus.class);
+    private final Map<PriceBand, CompressedBitmap> byPrice = new EnumMap<>(PriceBand.class);
+
+    public FacetIndex() {
+        for (StockStatus status : StockStatus.values()) {
+            byStock.put(status, new CompressedBitmap());
+        }
+        for (PriceBand band : PriceBand.values()) {
+            byPrice.put(band, new CompressedBitmap());
+        }
+    }
+
+    // Build an index over a list of products, one row per list position
+    public static FacetIndex of(List<Product> products) {
+        FacetIndex index = new FacetIndex();
+        for (int row = 0; row < products.size(); row++) {
+            index.add(row, products.get(row));
+        }
+        return index;
+    }
+
+    public void add(int row, Product product) {
+        all.add(row);
+        byCategory.computeIfAbsent(product.getCategoryId(), k -> new CompressedBitmap()).add(row);
+        byStock.get(StockStatus.of(product.getQuantity())).add(row);
+        byPrice.get(PriceBand.of(product.getPrice())).add(row);
+    }
+
+    // Drop a row from every selection; the positions of the other rows are unchanged
+    public void remove(int row) {
+        all.remove(row);
+        for (CompressedBitmap bitmap : byCategory.values()) {
+            bitmap.remove(row);
+        }
+        for (CompressedBitmap bitmap : byStock.values()) {
+            bitmap.remove(row);
+        }
+        for (CompressedBitmap bitmap : byPrice.values()) {
+            bitmap.remove(row);
+        }
+    }
+
+    // Rows matching every non-null selection
+    public CompressedBitmap select(Integer categoryId, StockStatus stock, PriceBand price) {
+        CompressedBitmap result = all;
+        if (categoryId != null) {
+            result = result.and(byCategory.getOrDefault(categoryId, new CompressedBitmap()));
+        }
+        if (stock != null) {
+            result = result.and(byStock.get(stock));
+        }
+        if (price != null) {
+            result = result.and(byPrice.get(price));
+        }
+        return result;
+    }
+
+    // Live counts for each dimension: how many products each value would leave, given the
+    // other two selections and an optional restriction (e.g. text search hits)
+    public Map<Integer, Integer> countByCategory(StockStatus stock, PriceBand price, CompressedBitmap restrict) {
+        CompressedBitmap base = restrict(select(null, stock, price), restrict);
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Map.Entry<Integer, CompressedBitmap> entry : byCategory.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().andCardinality(base));
+        }
+        return counts;
+    }
+
+    public Map<StockStatus, Integer> countByStock(Integer categoryId, PriceBand price, CompressedBitmap restrict) {
+        CompressedBitmap base = restrict(select(categoryId, null, price), restrict);
+        Map<StockStatus, Integer> counts = new EnumMap<>(StockStatus.class);
+        for (Map.Entry<StockStatus, CompressedBitmap> entry : byStock.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().andCardinality(base));
+        }
+        return counts;
+    }
+
+    public Map<PriceBand, Integer> countByPriceBand(Integer categoryId, StockStatus stock, CompressedBitmap restrict) {
+        CompressedBitmap base = restrict(select(categoryId, stock, null), restrict);
+        Map<PriceBand, Integer> counts = new EnumMap<>(PriceBand.class);
+        for (Map.Entry<PriceBand, CompressedBitmap> entry : byPrice.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().andCardinality(base));
+        }
+        return counts;
+    }
+
+    private static CompressedBitmap restrict(CompressedBitmap bitmap, CompressedBitmap restrict) {
+        return restrict == null ? bitmap : bitmap.and(restrict);
+    }
+}
@@ -0,0 +1,403 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class InMemoryStorageEngine implements StorageEngine {
+    // Log record types
+    private static final byte PUT_PRODUCT = 'P';
+    private static final byte DELETE_PRODUCT = 'p';
+    private static final byte PUT_BUYER = 'B';
+    private static final byte DELETE_BUYER = 'b';
+
+    private final ConcurrentSkipListMap<Integer, Product> products = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Integer, Buyer> buyers = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextProductId = new AtomicInteger(1);
+    private final AtomicInteger nextBuyerId = new AtomicInteger(1);
+
+    // Category dictionary keyed by Category.key; categories are rebuilt from products on replay
+    private final ConcurrentHashMap<String, Category> categories = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCategoryId = new AtomicInteger(1);
+
+    // Append-only log, or null when running purely in memory. Every record is fsynced before the
+    // change is applied in memory, so a change the caller has seen succeed survives a crash or
+    // power loss, and a change whose write failed is never seen by anyone.
+    private final FileOutputStream log;
+
+    // Volatile engine; contents are lost when the process exits
+    public InMemoryStorageEngine() {
+        this.log = null;
+    }
+
+    // Durable engine; replays the log on startup and appends every change to it
+    public InMemoryStorageEngine(File logFile) throws SQLException {
+        try {
+            if (logFile.exists()) {
+                replay(logFile);
+            }
+            this.log = new FileOutputStream(logFile, true);
+        } catch (IOException e) {
+            throw new SQLException("Cannot open storage log " + logFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int putProduct(Product product) throws SQLException {
+        if (log == null) {
+            Product stored = prepareProduct(product);
+            if (stored == null) {
+                return -1;
+            }
+            if (product.getId() == 0) {
+                products.put(stored.getId(), stored);
+            } else if (products.replace(stored.getId(), stored) == null) {
+                // replace() rather than put() so a concurrent delete is not undone
+                return -1;
+            }
+            return publishProduct(product, stored);
+        }
+        synchronized (log) {
+            Product stored = prepareProduct(product);
+            if (stored == null) {
+                return -1;
+            }
+            append(out -> writeProduct(out, stored));
+            products.put(stored.getId(), stored);
+            return publishProduct(product, stored);
+        }
+    }
+
+    // Build the row to store without touching the map or the caller's product;
+    // null when an update targets an id that does not exist
+    private Product prepareProduct(Product product) {
+        Product existing = null;
+        if (product.getId() != 0) {
+            existing = products.get(product.getId());
+            if (existing == null) {
+                return null;
+            }
+        }
+        Product stored = copy(product);
+        if (!Category.normalize(product.getCategory()).isEmpty()) {
+            Category category = internCategory(product.getCategory());
+            stored.setCategory(category.getName());
+            stored.setCategoryId(category.getId());
+        }
+        if (existing == null) {
+            stored.setId(nextProductId.getAndIncrement());
+        } else if (!product.isDescriptionLoaded()) {
+            // A summary row from a list view leaves the stored description untouched
+            stored.setDescription(existing.getDescription());
+        }
+        return stored;
+    }
+
+    // Report the stored id and category back to the caller once the change is in place
+    private static int publishProduct(Product product, Product stored) {
+        product.setId(stored.getId());
+        product.setCategory(stored.getCategory());
+        product.setCategoryId(stored.getCategoryId());
+        ProductDescriptionCache.invalidate(stored.getId());
+        return stored.getId();
+    }
+
+    @Override
+    public Product getProduct(int id) {
+        Product product = products.get(id);
+        return product == null ? null : copy(product);
+    }
+
+    @Override
+    public List<Product> scanProducts(String searchText) {
+        String search = searchText.toLowerCase();
+        List<Product> result = new ArrayList<>();
+        for (Product product : products.values()) {
+            if (contains(product.getName(), search) || contains(product.getCategory(), search)) {
+                result.add(copy(product));
+            }
+        }
+        result.sort(Comparator.comparing(Product::getName));
+        return result;
+    }
+
+    @Override
+    public boolean deleteProduct(int id) throws SQLException {
+        if (log == null) {
+            boolean deleted = products.remove(id) != null;
+            ProductDescriptionCache.invalidate(id);
+            return deleted;
+        }
+        synchronized (log) {
+            if (!products.containsKey(id)) {
+                return false;
+            }
+            append(out -> {
+                out.writeByte(DELETE_PRODUCT);
+                out.writeInt(id);
+            });
+            products.remove(id);
+            ProductDescriptionCache.invalidate(id);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean sellProduct(int id, int amount) throws SQLException {
+        if (log == null) {
+            // Compare-and-set retry so concurrent sales never decrement from a stale quantity
+            while (true) {
+                Product current = products.get(id);
+                if (current == null || current.getQuantity() < amount) {
+                    return false;
+                }
+                Product updated = copy(current);
+                updated.setQuantity(current.getQuantity() - amount);
+                if (products.replace(id, current, updated)) {
+                    return true;
+                }
+            }
+        }
+        synchronized (log) {
+            Product current = products.get(id);
+            if (current == null || current.getQuantity() < amount) {
+                return false;
+            }
+            Product updated = copy(current);
+            updated.setQuantity(current.getQuantity() - amount);
+            append(out -> writeProduct(out, updated));
+            products.put(id, updated);
+            return true;
+        }
+    }
+
+    @Override
+    public int putBuyer(Buyer buyer) throws SQLException {
+        if (log == null) {
+            if (buyer.getId() == 0) {
+                buyer.setId(nextBuyerId.getAndIncrement());
+                buyers.put(buyer.getId(), copy(buyer));
+                return buyer.getId();
+            }
+            return buyers.replace(buyer.getId(), copy(buyer)) == null ? -1 : buyer.getId();
+        }
+        synchronized (log) {
+            if (buyer.getId() != 0 && !buyers.containsKey(buyer.getId())) {
+                return -1;
+            }
+            Buyer stored = copy(buyer);
+            if (buyer.getId() == 0) {
+                stored.setId(nextBuyerId.getAndIncrement());
+            }
+            append(out -> {
+                out.writeByte(PUT_BUYER);
+                out.writeInt(stored.getId());
+                writeString(out, stored.getName());
+                writeString(out, stored.getEmail());
+                writeString(out, stored.getPhone());
+                writeString(out, stored.getAddress());
+            });
+            buyers.put(stored.getId(), stored);
+            buyer.setId(stored.getId());
+            return stored.getId();
+        }
+    }
+
+    @Override
+    public Buyer getBuyer(int id) {
+        Buyer buyer = buyers.get(id);
+        return buyer == null ? null : copy(buyer);
+    }
+
+    @Override
+    public List<Buyer> scanBuyers(String searchText) {
+        String search = searchText.toLowerCase();
+        List<Buyer> result = new ArrayList<>();
+        for (Buyer buyer : buyers.values()) {
+            if (contains(buyer.getName(), search) || contains(buyer.getEmail(), search)) {
+                result.add(copy(buyer));
+            }
+        }
+        result.sort(Comparator.comparing(Buyer::getName));
+        return result;
+    }
+
+    @Override
+    public boolean deleteBuyer(int id) throws SQLException {
+        if (log == null) {
+            return buyers.remove(id) != null;
+        }
+        synchronized (log) {
+            if (!buyers.containsKey(id)) {
+                return false;
+            }
+            append(out -> {
+                out.writeByte(DELETE_BUYER);
+                out.writeInt(id);
+            });
+            buyers.remove(id);
+            return true;
+        }
+    }
+
+    @Override
+    public Category internCategory(String name) {
+        String normalized = Category.normalize(name);
+        Category category = categories.computeIfAbsent(Category.key(normalized),
+                key -> new Category(nextCategoryId.getAndIncrement(), normalized));
+        return new Category(category.getId(), category.getName());
+    }
+
+    @Override
+    public List<Category> listCategories() {
+        List<Category> result = new ArrayList<>();
+        for (Category category : categories.values()) {
+            result.add(new Category(category.getId(), category.getName()));
+        }
+        result.sort(Comparator.comparing(category -> Category.key(category.getName())));
+        return result;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (log == null) {
+            return;
+        }
+        synchronized (log) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                throw new SQLException("Error closing storage log: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private interface LogRecord {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Caller holds the log lock and applies the change in memory only after this returns.
+    // A record that fails to write is cut off again so the next one does not land after a torn tail.
+    private void append(LogRecord record) throws SQLException {
+        long length = -1;
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            record.write(new DataOutputStream(buffer));
+            length = log.getChannel().size();
+            log.write(buffer.toByteArray());
+            log.getFD().sync();
+        } catch (IOException e) {
+            if (length >= 0) {
+                try {
+                    log.getChannel().truncate(length);
+                } catch (IOException truncateError) {
+                    e.addSuppressed(truncateError);
+                }
+            }
+            throw new SQLException("Error writing storage log: " + e.getMessage(), e);
+        }
+    }
+
+    private void replay(File logFile) throws IOException {
+        byte[] bytes = Files.readAllBytes(logFile.toPath());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int validLength = 0;
+
+        while (in.available() > 0) {
+            try {
+                byte type = in.readByte();
+                switch (type) {
+                    case PUT_PRODUCT:
+                        replayProduct(new Product(in.readInt(), readString(in), readString(in),
+                                                  in.readDouble(), in.readInt(), readString(in)));
+                        break;
+                    case DELETE_PRODUCT:
+                        products.remove(in.readInt());
+                        break;
+                    case PUT_BUYER:
+                        replayBuyer(new Buyer(in.readInt(), readString(in), readString(in),
+                                              readString(in), readString(in)));
+                        break;
+                    case DELETE_BUYER:
+                        buyers.remove(in.readInt());
+                        break;
+                    default:
+                        throw new IOException("Corrupt storage log: unknown record type " + type);
+                }
+                validLength = bytes.length - in.available();
+            } catch (EOFException e) {
+                // A record torn by a crash mid-write; drop it so new records are not appended after it
+                System.err.println("Discarding truncated record at end of " + logFile);
+                try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+                    file.setLength(validLength);
+                }
+                break;
+            }
+        }
+
+        System.out.println("Replayed storage log: " + products.size() + " products, " + buyers.size() + " buyers");
+    }
+
+    // Log records carry their final id, so replay stores them directly instead of going through put
+    private void replayProduct(Product product) {
+        // Like AUTOINCREMENT, never hand out an id that has been used, even after a delete
+        nextProductId.accumulateAndGet(product.getId() + 1, Math::max);
+        if (!Category.normalize(product.getCategory()).isEmpty()) {
+            Category category = internCategory(product.getCategory());
+            product.setCategory(category.getName());
+            product.setCategoryId(category.getId());
+        }
+        products.put(product.getId(), product);
+    }
+
+    private void replayBuyer(Buyer buyer) {
+        nextBuyerId.accumulateAndGet(buyer.getId() + 1, Math::max);
+        buyers.put(buyer.getId(), buyer);
+    }
+
+    private static void writeProduct(DataOutputStream out, Product product) throws IOException {
+        out.writeByte(PUT_PRODUCT);
+        out.writeInt(product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getCategory());
+        out.writeDouble(product.getPrice());
+        out.writeInt(product.getQuantity());
+        writeString(out, product.getDescription());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static boolean contains(String value, String search) {
+        return value != null && value.toLowerCase().contains(search);
+    }
+
+    private static Product copy(Product p) {
+        Product product = new Product(p.getId(), p.getName(), p.getCategory(), p.getPrice(), p.getQuantity(), p.getDescription());
+        product.setCategoryId(p.getCategoryId());
+        return product;
+    }
+
+    private static Buyer copy(Buyer b) {
+        return new Buyer(b.getId(), b.getName(), b.getEmail(), b.getPhone(), b.getAddress());
+    }
+}
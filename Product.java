@@ -2,9 +2,11 @@ public class Product {
     private int id;
     private String name;
     private String category;
+    private int categoryId;     // Id in the category dictionary, 0 until stored
     private double price;
     private int quantity;
     private String description;
+    private boolean descriptionLoaded = true;
     
     // Default constructor
     public Product() {}
@@ -28,6 +30,16 @@ public class Product {
         this.description = description;
     }
     
+    // Constructor for list views; the description is not loaded (see ProductDescriptionCache)
+    public Product(int id, String name, String category, double price, int quantity) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.price = price;
+        this.quantity = quantity;
+        this.descriptionLoaded = false;
+    }
+    
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -38,14 +50,23 @@ public class Product {
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
     
+    public int getCategoryId() { return categoryId; }
+    public void setCategoryId(int categoryId) { this.categoryId = categoryId; }
+    
     public double getPrice() { return price; }
     public void setPrice(double price) { this.price = price; }
     
     public int getQuantity() { return quantity; }
     public void setQuantity(int quantity) { this.quantity = quantity; }
     
+    // Null both when there is no description and when it was not loaded; check isDescriptionLoaded()
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionLoaded = true;
+    }
+    
+    public boolean isDescriptionLoaded() { return descriptionLoaded; }
     
     @Override
     public String toString() {
@@ -53,9 +74,10 @@ public class Product {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", category='" + category + '\'' +
+                ", categoryId=" + categoryId +
                 ", price=" + price +
                 ", quantity=" + quantity +
-                ", description='" + description + '\'' +
+                (descriptionLoaded ? ", description='" + description + '\'' : ", description=<not loaded>") +
                 '}';
     }
 } 
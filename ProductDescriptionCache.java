@@ -0,0 +1,53 @@
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ProductDescriptionCache {
+    private static final int CAPACITY = 128;
+
+    // Access-ordered map that evicts the least recently used description
+    private static final Map<Integer, String> cache = new LinkedHashMap<Integer, String>(CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    // Bumped by every invalidate; a load that overlaps one may have read the old row, so it is not cached
+    private static long generation;
+
+    // Get a product description, loading it from the database on a miss
+    public static String get(int productId) {
+        long loadGeneration;
+        synchronized (cache) {
+            if (cache.containsKey(productId)) {
+                return cache.get(productId);
+            }
+            loadGeneration = generation;
+        }
+
+        String description;
+        try {
+            Product product = Storage.get().getProduct(productId);
+            description = product == null ? null : product.getDescription();
+        } catch (SQLException e) {
+            System.err.println("Error loading product description: " + e.getMessage());
+            return null;
+        }
+
+        synchronized (cache) {
+            if (generation == loadGeneration) {
+                cache.put(productId, description);
+            }
+        }
+        return description;
+    }
+
+    // Drop a cached description after the product changes or is deleted
+    public static void invalidate(int productId) {
+        synchronized (cache) {
+            cache.remove(productId);
+            generation++;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SqliteStorageEngine implements StorageEngine {
+
+    @Override
+    public int putProduct(Product product) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            if (!Category.normalize(product.getCategory()).isEmpty()) {
+                Category category = internCategory(conn, product.getCategory());
+                product.setCategory(category.getName());
+                product.setCategoryId(category.getId());
+            }
+            
+            if (product.getId() == 0) {
+                String sql = "INSERT INTO products (name, category, category_id, price, quantity, description) VALUES (?, ?, ?, ?, ?, ?)";
+                PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                bindProduct(ps, product);
+
+                if (ps.executeUpdate() == 0) {
+                    return -1;
+                }
+                ResultSet keys = ps.getGeneratedKeys();
+                if (keys.next()) {
+                    product.setId(keys.getInt(1));
+                }
+                return product.getId();
+            }
+
+            // A summary row from a list view leaves the stored description untouched
+            String sql = product.isDescriptionLoaded()
+                    ? "UPDATE products SET name = ?, category = ?, category_id = ?, price = ?, quantity = ?, description = ? WHERE id = ?"
+                    : "UPDATE products SET name = ?, category = ?, category_id = ?, price = ?, quantity = ? WHERE id = ?";
+            PreparedStatement ps = conn.prepareStatement(sql);
+            bindProduct(ps, product);
+            ps.setInt(product.isDescriptionLoaded() ? 7 : 6, product.getId());
+            if (ps.executeUpdate() == 0) {
+                return -1;
+            }
+            ProductDescriptionCache.invalidate(product.getId());
+            return product.getId();
+        }
+    }
+
+    private static void bindProduct(PreparedStatement ps, Product product) throws SQLException {
+        ps.setString(1, product.getName());
+        ps.setString(2, product.getCategory());
+        if (product.getCategoryId() > 0) {
+            ps.setInt(3, product.getCategoryId());
+        } else {
+            ps.setNull(3, Types.INTEGER);
+        }
+        ps.setDouble(4, product.getPrice());
+        ps.setInt(5, product.getQuantity());
+        if (product.isDescriptionLoaded()) {
+            ps.setString(6, product.getDescription());
+        }
+    }
+
+    @Override
+    public Product getProduct(int id) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            PreparedStatement ps = conn.prepareStatement("SELECT * FROM products WHERE id = ?");
+            ps.setInt(1, id);
+
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            Product product = new Product(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("category"),
+                rs.getDouble("price"),
+                rs.getInt("quantity"),
+                rs.getString("description"));
+            product.setCategoryId(rs.getInt("category_id"));
+            return product;
+        }
+    }
+
+    @Override
+    public List<Product> scanProducts(String searchText) throws SQLException {
+        List<Product> products = new ArrayList<>();
+        String pattern = "%" + searchText.toLowerCase() + "%";
+
+        // Projection only: descriptions are loaded on demand through ProductDescriptionCache
+        try (Connection conn = Database.getConnection()) {
+            String sql = "SELECT id, name, category, category_id, price, quantity FROM products " +
+                         "WHERE LOWER(name) LIKE ? OR LOWER(category) LIKE ? ORDER BY name";
+            PreparedStatement ps = conn.prepareStatement(sql);
+            ps.setString(1, pattern);
+            ps.setString(2, pattern);
+
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                Product product = new Product(
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("category"),
+                    rs.getDouble("price"),
+                    rs.getInt("quantity"));
+                product.setCategoryId(rs.getInt("category_id"));
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public boolean deleteProduct(int id) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            PreparedStatement ps = conn.prepareStatement("DELETE FROM products WHERE id = ?");
+            ps.setInt(1, id);
+            boolean deleted = ps.executeUpdate() > 0;
+            ProductDescriptionCache.invalidate(id);
+            return deleted;
+        }
+    }
+
+    @Override
+    public boolean sellProduct(int id, int amount) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            // The stock check and the decrement run as a single statement
+            String sql = "UPDATE products SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+            PreparedStatement ps = conn.prepareStatement(sql);
+            ps.setInt(1, amount);
+            ps.setInt(2, id);
+            ps.setInt(3, amount);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int putBuyer(Buyer buyer) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            if (buyer.getId() == 0) {
+                String sql = "INSERT INTO buyers (name, email, phone, address) VALUES (?, ?, ?, ?)";
+                PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                bindBuyer(ps, buyer);
+
+                if (ps.executeUpdate() == 0) {
+                    return -1;
+                }
+                ResultSet keys = ps.getGeneratedKeys();
+                if (keys.next()) {
+                    buyer.setId(keys.getInt(1));
+                }
+                return buyer.getId();
+            }
+
+            String sql = "UPDATE buyers SET name = ?, email = ?, phone = ?, address = ? WHERE id = ?";
+            PreparedStatement ps = conn.prepareStatement(sql);
+            bindBuyer(ps, buyer);
+            ps.setInt(5, buyer.getId());
+            if (ps.executeUpdate() == 0) {
+                return -1;
+            }
+            return buyer.getId();
+        }
+    }
+
+    private static void bindBuyer(PreparedStatement ps, Buyer buyer) throws SQLException {
+        ps.setString(1, buyer.getName());
+        ps.setString(2, buyer.getEmail());
+        ps.setString(3, buyer.getPhone());
+        ps.setString(4, buyer.getAddress());
+    }
+
+    @Override
+    public Buyer getBuyer(int id) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            PreparedStatement ps = conn.prepareStatement("SELECT * FROM buyers WHERE id = ?");
+            ps.setInt(1, id);
+
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? readBuyer(rs) : null;
+        }
+    }
+
+    @Override
+    public List<Buyer> scanBuyers(String searchText) throws SQLException {
+        List<Buyer> buyers = new ArrayList<>();
+        String pattern = "%" + searchText.toLowerCase() + "%";
+
+        try (Connection conn = Database.getConnection()) {
+            String sql = "SELECT * FROM buyers WHERE LOWER(name) LIKE ? OR LOWER(email) LIKE ? ORDER BY name";
+            PreparedStatement ps = conn.prepareStatement(sql);
+            ps.setString(1, pattern);
+            ps.setString(2, pattern);
+
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                buyers.add(readBuyer(rs));
+            }
+        }
+        return buyers;
+    }
+
+    private static Buyer readBuyer(ResultSet rs) throws SQLException {
+        return new Buyer(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("phone"),
+            rs.getString("address"));
+    }
+
+    @Override
+    public boolean deleteBuyer(int id) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            PreparedStatement ps = conn.prepareStatement("DELETE FROM buyers WHERE id = ?");
+            ps.setInt(1, id);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public Category internCategory(String name) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            return internCategory(conn, name);
+        }
+    }
+
+    // Shared with the Database migration so legacy rows are interned exactly like new ones
+    static Category internCategory(Connection conn, String name) throws SQLException {
+        String normalized = Category.normalize(name);
+        Category category = findCategory(conn, normalized);
+        if (category != null) {
+            return category;
+        }
+
+        // The UNIQUE NOCASE column turns a concurrent insert of the same name into a no-op
+        PreparedStatement insert = conn.prepareStatement("INSERT OR IGNORE INTO categories (name) VALUES (?)");
+        insert.setString(1, normalized);
+        insert.executeUpdate();
+
+        category = findCategory(conn, normalized);
+        if (category == null) {
+            throw new SQLException("Category not found after insert: " + normalized);
+        }
+        return category;
+    }
+
+    private static Category findCategory(Connection conn, String normalized) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement("SELECT id, name FROM categories WHERE name = ?");
+        ps.setString(1, normalized);
+        ResultSet rs = ps.executeQuery();
+        return rs.next() ? new Category(rs.getInt("id"), rs.getString("name")) : null;
+    }
+
+    @Override
+    public List<Category> listCategories() throws SQLException {
+        List<Category> categories = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM categories ORDER BY name")) {
+            while (rs.next()) {
+                categories.add(new Category(rs.getInt("id"), rs.getString("name")));
+            }
+        }
+        return categories;
+    }
+
+    @Override
+    public void close() {
+        // Connections are opened per call, nothing to release
+    }
+}
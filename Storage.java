@@ -0,0 +1,37 @@
+import java.io.File;
+import java.sql.SQLException;
+
+public class Storage {
+    // Select with -Dinventory.storage=sqlite|memory; -Dinventory.storage.log=<file> makes memory durable
+    private static StorageEngine engine;
+
+    // Get the active storage engine, creating it on first use
+    public static synchronized StorageEngine get() {
+        if (engine == null) {
+            engine = create();
+        }
+        return engine;
+    }
+
+    // Replace the active engine (used by the stress harness to benchmark engines side by side)
+    public static synchronized void set(StorageEngine storageEngine) {
+        engine = storageEngine;
+    }
+
+    private static StorageEngine create() {
+        String type = System.getProperty("inventory.storage", "sqlite");
+        if (type.equals("memory")) {
+            String logPath = System.getProperty("inventory.storage.log");
+            if (logPath == null) {
+                return new InMemoryStorageEngine();
+            }
+            try {
+                return new InMemoryStorageEngine(new File(logPath));
+            } catch (SQLException e) {
+                // Silently dropping to a volatile store would lose every change made from here on
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        return new SqliteStorageEngine();
+    }
+}
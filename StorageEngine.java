@@ -0,0 +1,47 @@
+import java.sql.SQLException;
+import java.util.List;
+
+// Storage backend for products and buyers; see Storage for how the active engine is chosen
+public interface StorageEngine {
+    // Insert a product when its id is 0, otherwise update it; returns the product id, or -1 when
+    // the insert fails or no product has that id (an update never inserts).
+    // The category is normalized through the category dictionary.
+    int putProduct(Product product) throws SQLException;
+
+    // Get a fully loaded product, or null if it does not exist
+    Product getProduct(int id) throws SQLException;
+
+    // List products whose name or category contains the search text (all if empty), ordered by name.
+    // Descriptions may be left unloaded.
+    List<Product> scanProducts(String searchText) throws SQLException;
+
+    // Delete a product, returning true if it existed
+    boolean deleteProduct(int id) throws SQLException;
+
+    // Take amount units out of stock in one atomic step; returns false, changing nothing, when the
+    // product does not exist or has fewer than amount units, so quantity never goes below zero
+    boolean sellProduct(int id, int amount) throws SQLException;
+
+    // Insert a buyer when its id is 0, otherwise update it; returns the buyer id, or -1 when
+    // the insert fails or no buyer has that id (an update never inserts)
+    int putBuyer(Buyer buyer) throws SQLException;
+
+    // Get a buyer, or null if it does not exist
+    Buyer getBuyer(int id) throws SQLException;
+
+    // List buyers whose name or email contains the search text (all if empty), ordered by name
+    List<Buyer> scanBuyers(String searchText) throws SQLException;
+
+    // Delete a buyer, returning true if it existed
+    boolean deleteBuyer(int id) throws SQLException;
+
+    // Look up a category by name ignoring case and extra whitespace, adding it if new;
+    // returns the dictionary entry with its canonical spelling
+    Category internCategory(String name) throws SQLException;
+
+    // List all categories in the dictionary, ordered by name
+    List<Category> listCategories() throws SQLException;
+
+    // Release any resources held by the engine
+    void close() throws SQLException;
+}